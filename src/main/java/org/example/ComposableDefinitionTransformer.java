@@ -21,6 +21,10 @@ public class ComposableDefinitionTransformer extends TreeTranslator {
     @Override
     public void visitMethodDef(JCTree.JCMethodDecl tree) {
         if (isComposableCandidate(tree)) {
+            // the parameters need a position inside the method, otherwise javac's flow analysis
+            // doesn't track them and fails on the method
+            treeMaker.at(tree.pos);
+
             JCTree.JCVariableDecl composerParam = treeMaker.VarDef(
                     treeMaker.Modifiers(Flags.PARAMETER),
                     names.fromString("$composer"),
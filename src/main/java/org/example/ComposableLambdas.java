@@ -0,0 +1,51 @@
+package org.example;
+
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.util.Context;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Remembers the lambdas the passes generate so later passes don't have to guess them
+ * from their shape. Shared between passes through the compiler {@link Context}.
+ */
+public class ComposableLambdas {
+
+    protected static final Context.Key<ComposableLambdas> KEY = new Context.Key<>();
+
+    // lambdas created by Pass 1 from the `Column { ... }` syntax
+    private final Set<JCTree.JCLambda> contentLambdas = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    // (Composer, Integer) lambdas created by Pass 3 for the content lambdas
+    private final Set<JCTree.JCLambda> restartableLambdas = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    public static ComposableLambdas instance(Context context) {
+        ComposableLambdas instance = context.get(KEY);
+        if (instance == null) {
+            instance = new ComposableLambdas(context);
+        }
+        return instance;
+    }
+
+    protected ComposableLambdas(Context context) {
+        context.put(KEY, this);
+    }
+
+    public void markContent(JCTree.JCLambda lambda) {
+        contentLambdas.add(lambda);
+    }
+
+    public boolean isContent(JCTree.JCLambda lambda) {
+        return contentLambdas.contains(lambda);
+    }
+
+    public void markRestartable(JCTree.JCLambda lambda) {
+        restartableLambdas.add(lambda);
+    }
+
+    public boolean isRestartable(JCTree.JCLambda lambda) {
+        return restartableLambdas.contains(lambda);
+    }
+}
@@ -1,11 +1,14 @@
 package org.example;
 
+import com.sun.tools.javac.code.Flags;
 import com.sun.tools.javac.code.TypeTag;
 import com.sun.tools.javac.tree.JCTree;
 import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.tree.TreeScanner;
 import com.sun.tools.javac.tree.TreeTranslator;
 import com.sun.tools.javac.util.Context;
 import com.sun.tools.javac.util.ListBuffer;
+import com.sun.tools.javac.util.Name;
 import com.sun.tools.javac.util.Names;
 
 import javax.tools.JavaFileObject;
@@ -14,12 +17,24 @@ public class ComposeGroupTransformer extends TreeTranslator {
 
     private final TreeMaker treeMaker;
     private final Names names;
+    private final ComposableLambdas composableLambdas;
+
+    private static final String COMPOSER_VAR = "$composer";
+    private static final String CHANGED_VAR = "$changed";
 
     private int currentFileHash = 0;
 
+    // the composer visible at the current position. Restartable lambdas receive their
+    // own composer parameter, java does not allow it to shadow the outer one so each
+    // nesting level gets a suffixed name ($composer$1, $composer$2, ...)
+    private Name currentComposer;
+    private int restartableDepth = 0;
+
     public ComposeGroupTransformer(Context context) {
         this.treeMaker = TreeMaker.instance(context);
         this.names = Names.instance(context);
+        this.composableLambdas = ComposableLambdas.instance(context);
+        this.currentComposer = names.fromString(COMPOSER_VAR);
     }
 
     @Override
@@ -35,19 +50,32 @@ public class ComposeGroupTransformer extends TreeTranslator {
         super.visitTopLevel(tree);
     }
 
+    @Override
+    public void visitApply(JCTree.JCMethodInvocation tree) {
+        tree.typeargs = translate(tree.typeargs);
+        tree.meth = translate(tree.meth);
+
+        ListBuffer<JCTree.JCExpression> newArgs = new ListBuffer<>();
+        for (JCTree.JCExpression arg : tree.args) {
+            if (isContentLambda(arg)) {
+                newArgs.append(createRestartableLambda((JCTree.JCLambda) arg));
+            } else {
+                newArgs.append(translate(arg));
+            }
+        }
+        tree.args = newArgs.toList();
+
+        result = tree;
+    }
+
     @Override
     public void visitLambda(JCTree.JCLambda tree) {
         if (tree.body instanceof JCTree.JCBlock) {
             JCTree.JCBlock bodyBlock = (JCTree.JCBlock) tree.body;
 
-            // formula: (FileHash * 31) + ByteOffset
-            // this ensures that if the file content stays the same, the key stays the same.
-            int offset = tree.pos; // This works because Pass 1 set the position
-            int groupKey = (currentFileHash * 31) + offset;
-
             JCTree.JCStatement startGroup = createComposerCall(
                     "startReplaceableGroup",
-                    treeMaker.Literal(TypeTag.INT, groupKey)
+                    treeMaker.Literal(TypeTag.INT, groupKey(tree))
             );
 
             JCTree.JCStatement endGroup = createComposerCall("endReplaceableGroup");
@@ -64,11 +92,185 @@ public class ComposeGroupTransformer extends TreeTranslator {
         super.visitLambda(tree);
     }
 
+    /**
+     * A content lambda is what Pass 1 produces for {@code Column { ... }}.
+     * Hand-written lambdas such as {@code Button(() -> { ... })} are left alone.
+     */
+    private boolean isContentLambda(JCTree.JCExpression arg) {
+        if (!(arg instanceof JCTree.JCLambda)) return false;
+        JCTree.JCLambda lambda = (JCTree.JCLambda) arg;
+        return composableLambdas.isContent(lambda) && lambda.body instanceof JCTree.JCBlock;
+    }
+
+    /**
+     * Turns a content lambda into a restartable one:
+     * <pre>
+     * ComposableLambdaKt.composableLambda($composer, key, true,
+     *         (Function2&lt;Composer, Integer, Unit&gt;) (Composer $composer$1, Integer $changed$1) -&gt; {
+     *             if (($changed$1 &amp; 3) == 2 &amp;&amp; $composer$1.getSkipping()) {
+     *                 $composer$1.skipToGroupEnd();
+     *             } else {
+     *                 body;
+     *             }
+     *             return Unit.INSTANCE;
+     *         })
+     * </pre>
+     * The holder is cached in the slot table under {@code key}, so the parent receives the same
+     * instance on every recomposition and the lambda gets its own restart scope. A state read
+     * inside the body then only re-executes the body instead of the enclosing composable, and
+     * the body itself is skipped when the caller reports that nothing changed.
+     */
+    private JCTree.JCExpression createRestartableLambda(JCTree.JCLambda tree) {
+        JCTree.JCBlock bodyBlock = (JCTree.JCBlock) tree.body;
+        int groupKey = groupKey(tree);
+
+        Name outerComposer = currentComposer;
+        restartableDepth++;
+        Name lambdaComposer = names.fromString(COMPOSER_VAR + "$" + restartableDepth);
+        Name lambdaChanged = names.fromString(CHANGED_VAR + "$" + restartableDepth);
+
+        // nested composable calls inside the body must use the composer passed to the lambda
+        currentComposer = lambdaComposer;
+        try {
+            bodyBlock.stats = translate(bodyBlock.stats);
+        } finally {
+            currentComposer = outerComposer;
+            restartableDepth--;
+        }
+
+        // the kotlin function type expects a Unit result, so `return;` has to return it too
+        new UnitReturnRewriter().scan(bodyBlock);
+
+        treeMaker.at(tree.pos);
+
+        // ($changed$1 & 3) == 2 && $composer$1.getSkipping()
+        JCTree.JCExpression skippingCondition = treeMaker.Binary(
+                JCTree.Tag.AND,
+                treeMaker.Binary(
+                        JCTree.Tag.EQ,
+                        treeMaker.Parens(treeMaker.Binary(
+                                JCTree.Tag.BITAND,
+                                treeMaker.Ident(lambdaChanged),
+                                treeMaker.Literal(TypeTag.INT, 3)
+                        )),
+                        treeMaker.Literal(TypeTag.INT, 2)
+                ),
+                createMethodCall(lambdaComposer, "getSkipping")
+        );
+
+        JCTree.JCIf ifSkipping = treeMaker.If(
+                skippingCondition,
+                treeMaker.Block(0, com.sun.tools.javac.util.List.of(
+                        treeMaker.Exec(createMethodCall(lambdaComposer, "skipToGroupEnd"))
+                )),
+                bodyBlock
+        );
+
+        // the skip branch always completes normally, so the end of the lambda is always
+        // reachable and needs the trailing return, even if the body itself never completes
+        JCTree.JCBlock restartableBody = treeMaker.Block(0, com.sun.tools.javac.util.List.of(
+                ifSkipping,
+                treeMaker.Return(qualifiedName("kotlin.Unit.INSTANCE"))
+        ));
+
+        JCTree.JCVariableDecl composerParam = treeMaker.VarDef(
+                treeMaker.Modifiers(Flags.PARAMETER),
+                lambdaComposer,
+                treeMaker.Ident(names.fromString("Composer")),
+                null
+        );
+        JCTree.JCVariableDecl changedParam = treeMaker.VarDef(
+                treeMaker.Modifiers(Flags.PARAMETER),
+                lambdaChanged,
+                treeMaker.Ident(names.fromString("Integer")),
+                null
+        );
+
+        JCTree.JCLambda restartable = treeMaker.Lambda(
+                com.sun.tools.javac.util.List.of(composerParam, changedParam),
+                restartableBody
+        );
+        composableLambdas.markRestartable(restartable);
+
+        // composableLambda takes the block as Any, so java needs an explicit functional target type
+        JCTree.JCExpression functionType = treeMaker.TypeApply(
+                qualifiedName("kotlin.jvm.functions.Function2"),
+                com.sun.tools.javac.util.List.of(
+                        treeMaker.Ident(names.fromString("Composer")),
+                        treeMaker.Ident(names.fromString("Integer")),
+                        qualifiedName("kotlin.Unit")
+                )
+        );
+
+        return treeMaker.Apply(
+                com.sun.tools.javac.util.List.nil(),
+                treeMaker.Select(
+                        qualifiedName("androidx.compose.runtime.internal.ComposableLambdaKt"),
+                        names.fromString("composableLambda")
+                ),
+                com.sun.tools.javac.util.List.of(
+                        treeMaker.Ident(outerComposer),
+                        treeMaker.Literal(TypeTag.INT, groupKey),
+                        treeMaker.Literal(TypeTag.BOOLEAN, 1),
+                        treeMaker.TypeCast(functionType, restartable)
+                )
+        );
+    }
+
+    /**
+     * Rewrites `return;` into `return Unit.INSTANCE;`.
+     * Returns of nested lambdas and classes belong to them and are not touched.
+     */
+    private class UnitReturnRewriter extends TreeScanner {
+
+        @Override
+        public void visitReturn(JCTree.JCReturn tree) {
+            if (tree.expr == null) {
+                treeMaker.at(tree.pos);
+                tree.expr = qualifiedName("kotlin.Unit.INSTANCE");
+            }
+        }
+
+        @Override
+        public void visitLambda(JCTree.JCLambda tree) {
+        }
+
+        @Override
+        public void visitClassDef(JCTree.JCClassDecl tree) {
+        }
+    }
+
+    /**
+     * formula: (FileHash * 31) + ByteOffset
+     * this ensures that if the file content stays the same, the key stays the same.
+     */
+    private int groupKey(JCTree tree) {
+        int offset = tree.pos; // This works because Pass 1 set the position
+        return (currentFileHash * 31) + offset;
+    }
+
+    private JCTree.JCExpression qualifiedName(String qualifiedName) {
+        String[] parts = qualifiedName.split("\\.");
+        JCTree.JCExpression expr = treeMaker.Ident(names.fromString(parts[0]));
+        for (int i = 1; i < parts.length; i++) {
+            expr = treeMaker.Select(expr, names.fromString(parts[i]));
+        }
+        return expr;
+    }
+
+    private JCTree.JCMethodInvocation createMethodCall(Name receiver, String methodName) {
+        return treeMaker.Apply(
+                com.sun.tools.javac.util.List.nil(),
+                treeMaker.Select(treeMaker.Ident(receiver), names.fromString(methodName)),
+                com.sun.tools.javac.util.List.nil()
+        );
+    }
+
     /**
      * Helper to create `composer.methodName(args)`
      */
     private JCTree.JCStatement createComposerCall(String methodName, JCTree.JCExpression... args) {
-        JCTree.JCExpression composerIdent = treeMaker.Ident(names.fromString("$composer"));
+        JCTree.JCExpression composerIdent = treeMaker.Ident(currentComposer);
 
         // Select the method "composer.methodName"
         JCTree.JCFieldAccess select = treeMaker.Select(composerIdent, names.fromString(methodName));
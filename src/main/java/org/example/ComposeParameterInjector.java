@@ -17,10 +17,32 @@ public class ComposeParameterInjector extends TreeTranslator {
 
     private final TreeMaker treeMaker;
     private final Names names;
+    private final ComposableLambdas composableLambdas;
+
+    // restartable content lambdas (see ComposeGroupTransformer) declare their own composer parameter
+    private Name currentComposer;
 
     public ComposeParameterInjector(Context context) {
         treeMaker = TreeMaker.instance(context);
         names = Names.instance(context);
+        composableLambdas = ComposableLambdas.instance(context);
+        currentComposer = names.fromString("$composer");
+    }
+
+    @Override
+    public void visitLambda(JCLambda tree) {
+        if (!composableLambdas.isRestartable(tree)) {
+            super.visitLambda(tree);
+            return;
+        }
+
+        Name outerComposer = currentComposer;
+        currentComposer = tree.params.head.name;
+        try {
+            super.visitLambda(tree);
+        } finally {
+            currentComposer = outerComposer;
+        }
     }
 
     @Override
@@ -29,7 +51,7 @@ public class ComposeParameterInjector extends TreeTranslator {
             ListBuffer<JCExpression> newArgs = new ListBuffer<>();
             newArgs.appendList(tree.args);
 
-            JCTree.JCExpression composerArg = treeMaker.Ident(names.fromString("$composer"));
+            JCTree.JCExpression composerArg = treeMaker.Ident(currentComposer);
             newArgs.append(composerArg);
 
             // calculate and append changed bitmasks
@@ -15,10 +15,12 @@ public class KotlinSyntaxFixer extends TreeTranslator {
 
     private final TreeMaker treeMaker;
     private final Names names;
+    private final ComposableLambdas composableLambdas;
 
     public KotlinSyntaxFixer(Context context) {
         this.treeMaker = TreeMaker.instance(context);
         this.names = Names.instance(context);
+        this.composableLambdas = ComposableLambdas.instance(context);
     }
 
     @Override
@@ -89,7 +91,7 @@ public class KotlinSyntaxFixer extends TreeTranslator {
                 com.sun.tools.javac.util.List.nil(),
                 body
         );
-
+        composableLambdas.markContent(lambda);
 
         return treeMaker.Apply(
                 com.sun.tools.javac.util.List.nil(),
@@ -0,0 +1,188 @@
+package org.example;
+
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.tools.javac.api.BasicJavacTask;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeTranslator;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.Writer;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ComposableLambdaTest {
+
+    @Test
+    public void nestedContentLambdasUseTheirOwnComposer() {
+        String tree = transformAndAnalyze("""
+                @Composable
+                void Screen(String text) {
+                    Column {
+                        Text(text);
+                        Row {
+                            Text("x");
+                        }
+                    }
+                }
+                """);
+
+        assertTrue(tree.contains("Column(androidx.compose.runtime.internal.ComposableLambdaKt.composableLambda($composer, "));
+        assertTrue(tree.contains("(Composer $composer$1, Integer $changed$1)->"));
+        assertTrue(tree.contains("Text(text, $composer$1, 0)"));
+        assertTrue(tree.contains("Row(androidx.compose.runtime.internal.ComposableLambdaKt.composableLambda($composer$1, "));
+        assertTrue(tree.contains("Text(\"x\", $composer$2, 1)"));
+        assertTrue(tree.contains("}), $composer, 0)"));
+        assertTrue(tree.contains("}), $composer$1, 0)"));
+    }
+
+    @Test
+    public void contentLambdaSkipsWhenNothingChanged() {
+        String tree = transformAndAnalyze("""
+                @Composable
+                void Screen(String text) {
+                    Column {
+                        Text(text);
+                    }
+                }
+                """);
+
+        assertTrue(tree.contains("if (($changed$1 & 3) == 2 && $composer$1.getSkipping()) {"));
+        assertTrue(tree.contains("$composer$1.skipToGroupEnd();"));
+    }
+
+    @Test
+    public void earlyReturnReturnsUnit() {
+        String tree = transformAndAnalyze("""
+                @Composable
+                void Screen(String text, boolean hidden) {
+                    Column {
+                        if (hidden) return;
+                        Text(text);
+                    }
+                }
+                """);
+
+        assertTrue(tree.contains("if (hidden) return kotlin.Unit.INSTANCE;"));
+        assertFalse(tree.contains("return;"));
+    }
+
+    @Test
+    public void bodyThatNeverCompletes() {
+        transformAndAnalyze("""
+                @Composable
+                void Screen() {
+                    Box {
+                        while (true) {
+                            Text("y");
+                        }
+                    }
+                }
+                """);
+    }
+
+    @Test
+    public void nonComposableLambdaInsideContent() {
+        String tree = transformAndAnalyze("""
+                @Composable
+                void Screen(List<String> items) {
+                    Column {
+                        items.forEach(item -> {
+                            if (item.isEmpty()) return;
+                            Text(item);
+                        });
+                    }
+                }
+                """);
+
+        assertTrue(tree.contains("$composer$1.startReplaceableGroup("));
+        assertTrue(tree.contains("Text(item, $composer$1, 0)"));
+        assertTrue(tree.contains("if (item.isEmpty()) return;"));
+    }
+
+    @Test
+    public void callbackLambdaIsNotRestartable() {
+        String tree = transformAndAnalyze("""
+                int count = 0;
+
+                @Composable
+                void Screen() {
+                    Button(() -> {
+                        count++;
+                    });
+                }
+                """);
+
+        assertFalse(tree.contains("composableLambda"));
+        assertTrue(tree.contains("$composer.startReplaceableGroup("));
+    }
+
+    /**
+     * Runs the passes over the given members of a class and attributes the result,
+     * failing on any compile error reported after parsing. Returns the printed tree.
+     */
+    private String transformAndAnalyze(String members) {
+        String code = """
+                import androidx.compose.runtime.Composable;
+                import androidx.compose.runtime.Composer;
+                import java.util.List;
+
+                class Main {
+
+                    void Column(Object content) {}
+                    void Row(Object content) {}
+                    void Box(Object content) {}
+                    void Text(String text) {}
+                    void Button(Runnable onClick) {}
+
+                """ + members.indent(4) + """
+                }
+                """;
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+        BasicJavacTask task = (BasicJavacTask) compiler.getTask(
+                Writer.nullWriter(),
+                null,
+                diagnostics,
+                // the `Column { }` syntax is a parse error, attribute anyway so the passes' output is checked
+                List.of("-proc:none", "-XDshould-stop.ifError=FLOW", "-classpath", System.getProperty("java.class.path")),
+                null,
+                List.of(Main.TestFileObject.fromSource("Main", code))
+        );
+
+        List<TreeTranslator> passes = List.of(
+                new KotlinSyntaxFixer(task.getContext()),
+                new ComposableDefinitionTransformer(task.getContext()),
+                new ComposeGroupTransformer(task.getContext()),
+                new ComposeParameterInjector(task.getContext()),
+                new ComposableBodyTransformer(task.getContext())
+        );
+
+        Iterable<? extends CompilationUnitTree> parse = task.parse();
+        JCTree root = (JCTree) parse.iterator().next();
+        int parseDiagnostics = diagnostics.getDiagnostics().size();
+
+        passes.forEach(it -> it.translate(root));
+
+        task.analyze();
+
+        String tree = root.toString();
+        List<String> errors = diagnostics.getDiagnostics().stream()
+                .skip(parseDiagnostics)
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .map(Object::toString)
+                .collect(Collectors.toList());
+        assertEquals(List.of(), errors, tree);
+        return tree;
+    }
+}